@@ -43,6 +43,10 @@ dependencies {
     // Spring AI
     implementation("org.springframework.ai:spring-ai-starter-model-openai")
 
+    // Micrometer (metrics & context propagation for offloaded LLM calls)
+    implementation("io.micrometer:micrometer-core")
+    implementation("io.micrometer:context-propagation")
+
     // Jackson
     implementation("com.fasterxml.jackson.core:jackson-databind")
 
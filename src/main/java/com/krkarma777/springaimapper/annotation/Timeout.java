@@ -0,0 +1,37 @@
+package com.krkarma777.springaimapper.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how long an LLM call may take before it is aborted.
+ * <p>
+ * Can be placed on an interface to apply to all of its methods, or on a method to override
+ * the interface-level value. A call can be bounded further by passing a {@link java.time.Duration}
+ * (relative timeout) or {@link java.time.Instant} (absolute deadline) argument; the earliest
+ * deadline wins. Such parameters annotated with {@link Param} are template variables, not deadlines.
+ * When the deadline passes, the in-flight request is cancelled and a
+ * {@link com.krkarma777.springaimapper.exception.LlmCallTimeoutException} is thrown.
+ * </p>
+ *
+ * @see LlmClient
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Timeout {
+
+    /**
+     * The maximum duration of the call, in {@link #unit()}.
+     *
+     * @return the timeout value
+     */
+    long value();
+
+    /**
+     * The time unit of {@link #value()}.
+     *
+     * @return the time unit
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -22,4 +22,20 @@ public @interface UserMessage {
      * @return the prompt template
      */
     String value();
+
+    /**
+     * The maximum number of tokens the model may generate for this method.
+     * <p>
+     * Useful for scalar, enum and boolean return types, whose answers are only a few tokens long.
+     * A value of zero or less uses the model default.
+     * </p>
+     * <p>
+     * Setting this sends per-prompt chat options, which replace the default options configured on
+     * the injected {@code ChatClient.Builder} (e.g., temperature). Only the {@code @LlmClient} model
+     * is carried over; other options fall back to the chat model's configured defaults.
+     * </p>
+     *
+     * @return the maximum number of tokens
+     */
+    int maxTokens() default 0;
 }
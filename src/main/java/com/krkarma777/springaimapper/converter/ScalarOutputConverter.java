@@ -0,0 +1,276 @@
+package com.krkarma777.springaimapper.converter;
+
+import org.springframework.ai.converter.StructuredOutputConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Converts LLM responses to scalar return types without JSON schema generation.
+ * <p>
+ * Supports primitives and their wrappers, {@link BigDecimal}, {@link BigInteger} and enums.
+ * Instead of a full schema, a one-line instruction (e.g., "Answer with exactly one of: A, B, C")
+ * is appended to the prompt, which keeps classification-style calls short and cheap.
+ * Parsing is tolerant of surrounding whitespace, quotes, markdown, code fences and trailing punctuation.
+ * If the whole answer is not a valid value, booleans, enums and numbers fall back to the value the
+ * answer starts with (e.g., "Yes, 13 is prime." or "7 out of 10"); values mentioned later are ignored.
+ * Integral types reject fractional or exponent answers instead of truncating them, and characters
+ * require an answer of exactly one character.
+ * </p>
+ */
+public class ScalarOutputConverter implements StructuredOutputConverter<Object> {
+
+    // Leading number only; it must not run into letters or further digits (rejects "3.7" as int, "1,5", "1e3x")
+    private static final Pattern LEADING_INTEGER = Pattern.compile("^[-+]?\\d+(?!\\w)(?![.,]\\d)");
+    private static final Pattern LEADING_DECIMAL =
+        Pattern.compile("^[-+]?(\\d+(\\.\\d+)?|\\.\\d+)([eE][-+]?\\d+)?(?!\\w)(?![.,]\\d)");
+
+    private static final Set<Class<?>> SUPPORTED_WRAPPERS = Set.of(
+        Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+        Float.class, Double.class, BigInteger.class, BigDecimal.class);
+
+    private static final Pattern OPENING_FENCE = Pattern.compile("^```[\\w+-]*[ \\t]*\\r?\\n");
+    private static final Pattern CLOSING_FENCE = Pattern.compile("\\s*```$");
+    private static final Pattern SURROUNDING_MARKUP = Pattern.compile("^[`*_\"'\\s]+|[`*_\"'\\s]+$");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[.!?;:,]+$");
+    private static final Pattern THOUSANDS_SEPARATOR = Pattern.compile("(?<=\\d),(?=\\d{3}\\b)");
+    private static final Pattern LEADING_BOOLEAN = Pattern.compile("^(true|false|yes|no)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> TRUE_VALUES = Set.of("true", "yes", "y");
+    private static final Set<String> FALSE_VALUES = Set.of("false", "no", "n");
+
+    private final Class<?> type;
+    private final Map<String, Object> enumConstantsByKey = new HashMap<>();
+    private final Map<Pattern, Object> leadingEnumPatterns = new LinkedHashMap<>();
+
+    /**
+     * Creates a new converter for the given scalar type.
+     *
+     * @param type the target type
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    public ScalarOutputConverter(Class<?> type) {
+        if (!supports(type)) {
+            throw new IllegalArgumentException("Unsupported scalar type: " + type.getName());
+        }
+        this.type = type;
+        if (type.isEnum()) {
+            for (Object constant : type.getEnumConstants()) {
+                String name = ((Enum<?>) constant).name();
+                enumConstantsByKey.put(enumKey(name), constant);
+                String words = Arrays.stream(name.split("_"))
+                    .filter(word -> !word.isEmpty())
+                    .map(Pattern::quote)
+                    .collect(Collectors.joining("[\\s_-]*"));
+                leadingEnumPatterns.put(Pattern.compile("^" + words + "\\b", Pattern.CASE_INSENSITIVE), constant);
+            }
+        }
+    }
+
+    /**
+     * Checks if a type can be handled by this converter.
+     *
+     * @param type the type to check
+     * @return true if the type is a primitive, wrapper, big number or enum
+     */
+    public static boolean supports(Class<?> type) {
+        return (type.isPrimitive() && type != void.class) || type.isEnum() || SUPPORTED_WRAPPERS.contains(type);
+    }
+
+    /**
+     * Returns the constrained-output instruction for the target type.
+     *
+     * @return the format instruction
+     */
+    @Override
+    public String getFormat() {
+        if (type.isEnum()) {
+            String constants = Arrays.stream(type.getEnumConstants())
+                .map(constant -> ((Enum<?>) constant).name())
+                .collect(Collectors.joining(", "));
+            return "Answer with exactly one of: " + constants + ". Do not include any other text.";
+        }
+        if (isBoolean()) {
+            return "Answer with exactly one of: true, false. Do not include any other text.";
+        }
+        if (isCharacter()) {
+            return "Answer with a single character only. Do not include any other text.";
+        }
+        if (isIntegral()) {
+            return "Answer with a single integer number only. Do not include any other text.";
+        }
+        return "Answer with a single number only. Do not include any other text.";
+    }
+
+    /**
+     * Parses the response text into the target type.
+     *
+     * @param text the raw response text
+     * @return the converted value
+     * @throws IllegalArgumentException if the text cannot be parsed
+     */
+    @Override
+    public Object convert(String text) {
+        String value = normalize(text);
+
+        if (type.isEnum()) {
+            return convertEnum(value, text);
+        }
+        if (isBoolean()) {
+            return convertBoolean(value, text);
+        }
+        if (isCharacter()) {
+            if (value.length() != 1) {
+                throw parseFailure(text);
+            }
+            return value.charAt(0);
+        }
+        return convertNumber(THOUSANDS_SEPARATOR.matcher(value).replaceAll(""), text);
+    }
+
+    /**
+     * Strips whitespace, code fences (including a language tag), quotes, markdown emphasis
+     * and trailing punctuation from the response, repeating until nothing changes.
+     *
+     * @param text the raw response text
+     * @return the normalized value
+     */
+    private String normalize(String text) {
+        if (text == null) {
+            throw parseFailure(null);
+        }
+        String value = text.strip();
+        String previous;
+        do {
+            previous = value;
+            value = OPENING_FENCE.matcher(value).replaceFirst("");
+            value = CLOSING_FENCE.matcher(value).replaceFirst("");
+            value = SURROUNDING_MARKUP.matcher(value).replaceAll("");
+            value = TRAILING_PUNCTUATION.matcher(value).replaceFirst("");
+        } while (!value.equals(previous));
+        return value;
+    }
+
+    /**
+     * Parses a boolean, falling back to the leading token of a longer answer.
+     *
+     * @param value the normalized value
+     * @param original the raw response text (used for error messages)
+     * @return the converted boolean
+     */
+    private Object convertBoolean(String value, String original) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (!TRUE_VALUES.contains(lower) && !FALSE_VALUES.contains(lower)) {
+            Matcher matcher = LEADING_BOOLEAN.matcher(value);
+            if (!matcher.find()) {
+                throw parseFailure(original);
+            }
+            lower = matcher.group(1).toLowerCase(Locale.ROOT);
+        }
+        return TRUE_VALUES.contains(lower);
+    }
+
+    /**
+     * Matches an enum constant by name, ignoring case and separator differences.
+     *
+     * @param value the normalized value
+     * @param original the raw response text (used for error messages)
+     * @return the matching enum constant
+     */
+    private Object convertEnum(String value, String original) {
+        Object exact = enumConstantsByKey.get(enumKey(value));
+        if (exact != null) {
+            return exact;
+        }
+        // Fall back to the constant the answer starts with; later mentions are often negated ("not POSITIVE")
+        Object match = null;
+        int matchLength = 0;
+        for (Map.Entry<Pattern, Object> entry : leadingEnumPatterns.entrySet()) {
+            Matcher matcher = entry.getKey().matcher(value);
+            if (matcher.find() && matcher.end() > matchLength) {
+                match = entry.getValue();
+                matchLength = matcher.end();
+            }
+        }
+        if (match == null) {
+            throw parseFailure(original);
+        }
+        return match;
+    }
+
+    private static String enumKey(String value) {
+        return value.replaceAll("[\\s_-]", "").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses the number the value starts with.
+     * <p>
+     * The number must be a whole token: "3.7" or "1e3" is rejected for integral types rather than
+     * truncated, and "1,5" is rejected rather than read as 1.
+     * </p>
+     *
+     * @param value the normalized value
+     * @param original the raw response text (used for error messages)
+     * @return the converted number
+     */
+    private Object convertNumber(String value, String original) {
+        Matcher matcher = (isIntegral() ? LEADING_INTEGER : LEADING_DECIMAL).matcher(value);
+        if (!matcher.find()) {
+            throw parseFailure(original);
+        }
+        String number = matcher.group();
+        try {
+            if (type == int.class || type == Integer.class) {
+                return Integer.parseInt(number);
+            }
+            if (type == long.class || type == Long.class) {
+                return Long.parseLong(number);
+            }
+            if (type == short.class || type == Short.class) {
+                return Short.parseShort(number);
+            }
+            if (type == byte.class || type == Byte.class) {
+                return Byte.parseByte(number);
+            }
+            if (type == float.class || type == Float.class) {
+                return Float.parseFloat(number);
+            }
+            if (type == BigInteger.class) {
+                return new BigInteger(number);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(number);
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw parseFailure(original);
+        }
+    }
+
+    private boolean isBoolean() {
+        return type == boolean.class || type == Boolean.class;
+    }
+
+    private boolean isCharacter() {
+        return type == char.class || type == Character.class;
+    }
+
+    private boolean isIntegral() {
+        return type == int.class || type == Integer.class || type == long.class || type == Long.class
+            || type == short.class || type == Short.class || type == byte.class || type == Byte.class
+            || type == BigInteger.class;
+    }
+
+    private IllegalArgumentException parseFailure(String text) {
+        return new IllegalArgumentException("Cannot convert LLM response '" + text + "' to " + type.getSimpleName());
+    }
+}
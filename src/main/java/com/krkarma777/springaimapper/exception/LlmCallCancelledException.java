@@ -0,0 +1,23 @@
+package com.krkarma777.springaimapper.exception;
+
+/**
+ * Thrown when an LLM call is aborted because the calling thread was interrupted.
+ * <p>
+ * The underlying request has already been cancelled when this exception is thrown,
+ * and the interrupt status of the calling thread is preserved.
+ * </p>
+ *
+ * @see LlmCallTimeoutException
+ */
+public class LlmCallCancelledException extends RuntimeException {
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message the detail message
+     * @param cause the interruption that caused the cancellation
+     */
+    public LlmCallCancelledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,40 @@
+package com.krkarma777.springaimapper.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an LLM call does not complete before its deadline.
+ * <p>
+ * The underlying request has already been cancelled when this exception is thrown.
+ * </p>
+ *
+ * @see com.krkarma777.springaimapper.annotation.Timeout
+ */
+public class LlmCallTimeoutException extends RuntimeException {
+
+    private final Duration timeout;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message the detail message
+     * @param timeout the time budget that was exceeded (see {@link #getTimeout()})
+     */
+    public LlmCallTimeoutException(String message, Duration timeout) {
+        super(message);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the time budget that was exceeded.
+     * <p>
+     * This is the configured timeout ({@link com.krkarma777.springaimapper.annotation.Timeout} or a
+     * {@link Duration} argument), or the time left until an {@link java.time.Instant} deadline when the call started.
+     * </p>
+     *
+     * @return the timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -2,9 +2,12 @@ package com.krkarma777.springaimapper.factory;
 
 import com.krkarma777.springaimapper.annotation.LlmClient;
 import com.krkarma777.springaimapper.proxy.LlmClientInvocationHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 
@@ -25,6 +28,9 @@ public class LlmClientFactoryBean<T> implements FactoryBean<T> {
     @Autowired
     private ChatClient.Builder chatClientBuilder;
 
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
     /**
      * Creates a new factory bean for the given interface type.
      *
@@ -57,11 +63,12 @@ public class LlmClientFactoryBean<T> implements FactoryBean<T> {
         }
         
         ChatClient chatClient = builder.build();
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
         
         return (T) Proxy.newProxyInstance(
             interfaceType.getClassLoader(),
             new Class<?>[]{interfaceType},
-            new LlmClientInvocationHandler(chatClient, interfaceType, modelName)
+            new LlmClientInvocationHandler(chatClient, interfaceType, modelName, meterRegistry)
         );
     }
 
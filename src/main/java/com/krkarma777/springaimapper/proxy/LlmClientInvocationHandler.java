@@ -1,23 +1,45 @@
 package com.krkarma777.springaimapper.proxy;
 
 import com.krkarma777.springaimapper.annotation.Param;
+import com.krkarma777.springaimapper.annotation.Timeout;
+import com.krkarma777.springaimapper.converter.ScalarOutputConverter;
+import com.krkarma777.springaimapper.exception.LlmCallCancelledException;
+import com.krkarma777.springaimapper.exception.LlmCallTimeoutException;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.converter.StructuredOutputConverter;
+import org.springframework.util.StringUtils;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Handles method invocations for {@link com.krkarma777.springaimapper.annotation.LlmClient} interfaces.
@@ -25,28 +47,79 @@ import java.util.Map;
  * This handler intercepts the method call, constructs a prompt using the template,
  * sends it to the LLM via {@link ChatClient}, and converts the response into the return type.
  * </p>
+ * <p>
+ * Calls bounded by a {@link Timeout} deadline run on a virtual thread, carrying the caller's
+ * context (e.g., the current observation) across via Micrometer context propagation. When the
+ * deadline passes or the caller is interrupted, the worker is interrupted, which aborts the blocked
+ * HTTP exchange and releases its connection instead of waiting for an answer nobody will read.
+ * Calls without a deadline run on the calling thread.
+ * </p>
+ * <p>
+ * Cancelled calls are counted in the {@value #CANCELLED_CALLS_METRIC} counter, tagged by
+ * {@code interface}, {@code method} and {@code reason} ({@code timeout} or {@code interrupted}).
+ * </p>
  */
 public class LlmClientInvocationHandler implements InvocationHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(LlmClientInvocationHandler.class);
+
+    /**
+     * Name of the counter incremented for every cancelled call.
+     */
+    public static final String CANCELLED_CALLS_METRIC = "spring.ai.mapper.calls.cancelled";
+
+    private static final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private static final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
     
     private final ChatClient chatClient;
     private final Class<?> interfaceType;
     private final String systemMessage;
     private final String modelName;
+    private final Duration defaultTimeout;
+    private final MeterRegistry meterRegistry;
+    private final LongAdder cancelledCalls = new LongAdder();
 
     /**
-     * Creates a new invocation handler.
+     * Creates a new invocation handler that reports metrics to the global Micrometer registry.
      *
      * @param chatClient the ChatClient instance to use for LLM calls
      * @param interfaceType the interface type being proxied
      * @param modelName the model name to use (if specified in @LlmClient annotation)
      */
     public LlmClientInvocationHandler(ChatClient chatClient, Class<?> interfaceType, String modelName) {
+        this(chatClient, interfaceType, modelName, Metrics.globalRegistry);
+    }
+
+    /**
+     * Creates a new invocation handler.
+     *
+     * @param chatClient the ChatClient instance to use for LLM calls
+     * @param interfaceType the interface type being proxied
+     * @param modelName the model name to use (if specified in @LlmClient annotation)
+     * @param meterRegistry the registry to report cancelled calls to
+     */
+    public LlmClientInvocationHandler(ChatClient chatClient, Class<?> interfaceType, String modelName,
+                                      MeterRegistry meterRegistry) {
         this.chatClient = chatClient;
         this.interfaceType = interfaceType;
         this.systemMessage = extractSystemMessage();
         this.modelName = modelName;
+        this.defaultTimeout = toDuration(interfaceType.getAnnotation(Timeout.class));
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the number of calls that were cancelled because their deadline passed
+     * or the calling thread was interrupted.
+     * <p>
+     * Reachable via {@code Proxy.getInvocationHandler(client)}; prefer the
+     * {@value #CANCELLED_CALLS_METRIC} counter for monitoring.
+     * </p>
+     *
+     * @return the cancelled call count
+     */
+    public long getCancelledCallCount() {
+        return cancelledCalls.sum();
     }
 
     /**
@@ -76,28 +149,216 @@ public class LlmClientInvocationHandler implements InvocationHandler {
         Map<String, Object> variables = buildParameterMap(method, args);
         Class<?> returnType = method.getReturnType();
 
-        BeanOutputConverter<?> converter = null;
+        StructuredOutputConverter<?> converter = null;
         String formatInstruction = "";
         
-        // Prepare BeanOutputConverter if return type is a complex object
-        if (!isSimpleType(returnType)) {
+        // Scalars get a one-line instruction; complex objects get a full JSON schema
+        if (ScalarOutputConverter.supports(returnType)) {
+            converter = new ScalarOutputConverter(returnType);
+            formatInstruction = converter.getFormat();
+        } else if (!isSimpleType(returnType)) {
             converter = new BeanOutputConverter<>(returnType);
             formatInstruction = converter.getFormat();
         }
 
-        Prompt prompt = createPrompt(promptTemplate, variables, formatInstruction);
+        Prompt prompt = createPrompt(promptTemplate, variables, formatInstruction, userMessageAnnotation.maxTokens());
+        CallDeadline deadline = resolveDeadline(method, args);
 
-        // Execute LLM call using Fluent API
-        // Model is already configured in ChatClient.Builder via defaultOptions
-        String responseContent = chatClient.prompt(prompt).call().content();
+        String responseContent = execute(prompt, deadline, method);
 
         return convertResponse(responseContent, returnType, converter);
     }
 
+    /**
+     * Executes the LLM call, waiting at most until the deadline.
+     * <p>
+     * Without a deadline the call runs on the calling thread. With one, it runs on a virtual thread
+     * with the caller's context propagated; if the deadline passes or the calling thread is interrupted,
+     * the worker is interrupted, which aborts the underlying HTTP exchange, and the call is counted as cancelled.
+     * </p>
+     *
+     * @param prompt the prompt to send
+     * @param deadline the deadline, or null to run without a limit
+     * @param method the method being invoked (used for error messages and metrics)
+     * @return the raw response content
+     * @throws Throwable if the call fails, times out or is interrupted
+     */
+    private String execute(Prompt prompt, CallDeadline deadline, Method method) throws Throwable {
+        if (deadline == null) {
+            try {
+                return callLlm(prompt);
+            } catch (RuntimeException e) {
+                if (hasInterruptedCause(e)) {
+                    // The HTTP client usually clears the flag when it surfaces the interruption
+                    Thread.currentThread().interrupt();
+                    recordCancellation(method, "interrupted");
+                    throw new LlmCallCancelledException(
+                        "LLM call for method " + method.getName() + " was interrupted", e);
+                }
+                throw e;
+            }
+        }
+
+        Duration remaining = Duration.between(Instant.now(), deadline.at());
+        if (remaining.isNegative() || remaining.isZero()) {
+            recordCancellation(method, "timeout");
+            throw new LlmCallTimeoutException(
+                "Deadline already passed before calling LLM for method " + method.getName(), deadline.budget());
+        }
+
+        Callable<String> call = () -> callLlm(prompt);
+        Future<String> future = callExecutor.submit(contextSnapshotFactory.captureAll().wrap(call));
+        try {
+            return future.get(toNanosSaturated(remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            recordCancellation(method, "timeout");
+            logger.debug("LLM call for method {} timed out after {}", method.getName(), deadline.budget());
+            throw new LlmCallTimeoutException(
+                "LLM call for method " + method.getName() + " timed out after " + deadline.budget(),
+                deadline.budget());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            recordCancellation(method, "interrupted");
+            Thread.currentThread().interrupt();
+            throw new LlmCallCancelledException("LLM call for method " + method.getName() + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Sends the prompt to the LLM.
+     * <p>
+     * Model is already configured in ChatClient.Builder via defaultOptions.
+     * </p>
+     *
+     * @param prompt the prompt to send
+     * @return the raw response content
+     */
+    private String callLlm(Prompt prompt) {
+        return chatClient.prompt(prompt).call().content();
+    }
+
+    /**
+     * Counts a cancelled call, both locally and in the {@value #CANCELLED_CALLS_METRIC} counter.
+     *
+     * @param method the method whose call was cancelled
+     * @param reason the cancellation reason ({@code timeout} or {@code interrupted})
+     */
+    private void recordCancellation(Method method, String reason) {
+        cancelledCalls.increment();
+        Counter.builder(CANCELLED_CALLS_METRIC)
+            .description("LLM calls cancelled because their deadline passed or the caller was interrupted")
+            .tag("interface", interfaceType.getName())
+            .tag("method", method.getName())
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Checks if an exception was caused by a thread interruption (e.g., an interrupted HTTP exchange).
+     *
+     * @param throwable the exception to inspect
+     * @return true if an {@link InterruptedException} is in the cause chain
+     */
+    private static boolean hasInterruptedCause(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the effective deadline for a call.
+     * <p>
+     * The earliest of the method-level (or interface-level) {@link Timeout} and any deadline
+     * parameter (see {@link #isDeadlineParameter(Parameter)}) is used. Deadlines too far in the future
+     * to represent are treated as no limit.
+     * </p>
+     *
+     * @param method the method
+     * @param args the method arguments
+     * @return the deadline, or null if the call is unbounded
+     */
+    private CallDeadline resolveDeadline(Method method, Object[] args) {
+        Instant now = Instant.now();
+        Duration timeout = method.isAnnotationPresent(Timeout.class)
+            ? toDuration(method.getAnnotation(Timeout.class))
+            : defaultTimeout;
+        CallDeadline deadline = (timeout != null) ? new CallDeadline(plusSaturated(now, timeout), timeout) : null;
+
+        if (args != null) {
+            Parameter[] parameters = method.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                if (!isDeadlineParameter(parameters[i]) || args[i] == null) {
+                    continue;
+                }
+                CallDeadline candidate = (args[i] instanceof Duration duration)
+                    ? new CallDeadline(plusSaturated(now, duration), duration)
+                    : new CallDeadline((Instant) args[i], Duration.between(now, (Instant) args[i]));
+                if (deadline == null || candidate.at().isBefore(deadline.at())) {
+                    deadline = candidate;
+                }
+            }
+        }
+        return (deadline == null || deadline.at().equals(Instant.MAX)) ? null : deadline;
+    }
+
+    /**
+     * Adds a duration to an instant, clamping to {@link Instant#MIN} or {@link Instant#MAX} on overflow.
+     *
+     * @param instant the base instant
+     * @param duration the duration to add
+     * @return the resulting instant
+     */
+    private static Instant plusSaturated(Instant instant, Duration duration) {
+        try {
+            return instant.plus(duration);
+        } catch (DateTimeException | ArithmeticException e) {
+            return duration.isNegative() ? Instant.MIN : Instant.MAX;
+        }
+    }
+
+    /**
+     * Converts a positive duration to nanoseconds, clamping to {@link Long#MAX_VALUE} on overflow.
+     *
+     * @param duration the duration
+     * @return the duration in nanoseconds
+     */
+    private static long toNanosSaturated(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Converts a {@link Timeout} annotation to a {@link Duration}.
+     *
+     * @param timeout the annotation, may be null
+     * @return the duration, or null if the annotation is absent, not positive or too large to represent
+     */
+    private static Duration toDuration(Timeout timeout) {
+        if (timeout == null || timeout.value() <= 0) {
+            return null;
+        }
+        try {
+            return Duration.of(timeout.value(), timeout.unit().toChronoUnit());
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
     /**
      * Builds a parameter map from method parameters and arguments.
      * <p>
      * Uses {@link Param} annotation if present, otherwise falls back to reflection-based name extraction.
+     * Deadline parameters (see {@link #isDeadlineParameter(Parameter)}) are not template variables and are skipped.
      * </p>
      *
      * @param method the method
@@ -111,6 +372,9 @@ public class LlmClientInvocationHandler implements InvocationHandler {
         if (args != null) {
             for (int i = 0; i < parameters.length; i++) {
                 Parameter parameter = parameters[i];
+                if (isDeadlineParameter(parameter)) {
+                    continue;
+                }
                 String paramName = getParameterName(parameter, i);
                 variables.put(paramName, args[i]);
             }
@@ -118,6 +382,21 @@ public class LlmClientInvocationHandler implements InvocationHandler {
         return variables;
     }
 
+    /**
+     * Checks if a parameter carries a per-call deadline rather than a prompt variable.
+     * <p>
+     * Parameters declared as {@link Duration} or {@link Instant} are deadlines unless annotated
+     * with {@link Param}, in which case they stay template variables.
+     * </p>
+     *
+     * @param parameter the parameter
+     * @return true if the parameter is an unannotated {@link Duration} or {@link Instant}
+     */
+    private boolean isDeadlineParameter(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        return (type == Duration.class || type == Instant.class) && !parameter.isAnnotationPresent(Param.class);
+    }
+
     /**
      * Extracts the parameter name from a parameter.
      * <p>
@@ -148,15 +427,17 @@ public class LlmClientInvocationHandler implements InvocationHandler {
     /**
      * Creates a prompt from the template and variables.
      * <p>
-     * Includes system message if present, and appends format instructions for complex return types.
+     * Includes system message if present, and appends format instructions for non-String return types.
      * </p>
      *
      * @param promptTemplate the prompt template string
      * @param variables the variables to substitute
      * @param formatInstruction the format instruction for output conversion
+     * @param maxTokens the maximum number of tokens to generate, or zero or less for the model default
      * @return the constructed prompt
      */
-    private Prompt createPrompt(String promptTemplate, Map<String, Object> variables, String formatInstruction) {
+    private Prompt createPrompt(String promptTemplate, Map<String, Object> variables, String formatInstruction,
+                                int maxTokens) {
         List<Message> messages = new ArrayList<>();
 
         if (StringUtils.hasText(systemMessage)) {
@@ -171,6 +452,15 @@ public class LlmClientInvocationHandler implements InvocationHandler {
         }
 
         messages.add(new UserMessage(userMessageText));
+
+        if (maxTokens > 0) {
+            // Prompt options replace the client defaults, so carry the @LlmClient model along
+            ChatOptions options = ChatOptions.builder()
+                .model(StringUtils.hasText(modelName) ? modelName : null)
+                .maxTokens(maxTokens)
+                .build();
+            return new Prompt(messages, options);
+        }
         return new Prompt(messages);
     }
 
@@ -190,10 +480,10 @@ public class LlmClientInvocationHandler implements InvocationHandler {
      *
      * @param responseText the raw response text from the LLM
      * @param returnType the expected return type
-     * @param converter the converter to use for complex types
+     * @param converter the converter to use for scalar and complex types
      * @return the converted response object
      */
-    private Object convertResponse(String responseText, Class<?> returnType, BeanOutputConverter<?> converter) {
+    private Object convertResponse(String responseText, Class<?> returnType, StructuredOutputConverter<?> converter) {
         if (returnType == void.class || returnType == Void.class) {
             return null;
         }
@@ -206,14 +496,22 @@ public class LlmClientInvocationHandler implements InvocationHandler {
     /**
      * Checks if a type is a simple type that doesn't require conversion.
      * <p>
-     * Simple types include: String, void, primitives, and Number subclasses.
+     * Simple types include: String and void. Scalars are handled by {@link ScalarOutputConverter}.
      * </p>
      *
      * @param type the type to check
      * @return true if the type is simple
      */
     private boolean isSimpleType(Class<?> type) {
-        return type == String.class || type == void.class || type == Void.class || 
-               type.isPrimitive() || Number.class.isAssignableFrom(type);
+        return type == String.class || type == void.class || type == Void.class;
+    }
+
+    /**
+     * The effective deadline of a call, together with the time budget that defined it.
+     *
+     * @param at the instant at which the call is aborted
+     * @param budget the configured timeout, or the time left until an absolute deadline at call start
+     */
+    private record CallDeadline(Instant at, Duration budget) {
     }
 }
@@ -0,0 +1,172 @@
+package com.krkarma777.springaimapper.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parsing and format instruction tests for {@link ScalarOutputConverter}.
+ */
+class ScalarOutputConverterTest {
+
+    enum Sentiment { POSITIVE, NEGATIVE, NEUTRAL, VERY_NEUTRAL }
+
+    private static Object convert(Class<?> type, String text) {
+        return new ScalarOutputConverter(type).convert(text);
+    }
+
+    @Test
+    void supportsScalarsOnly() {
+        assertThat(ScalarOutputConverter.supports(int.class)).isTrue();
+        assertThat(ScalarOutputConverter.supports(Boolean.class)).isTrue();
+        assertThat(ScalarOutputConverter.supports(BigDecimal.class)).isTrue();
+        assertThat(ScalarOutputConverter.supports(Sentiment.class)).isTrue();
+        assertThat(ScalarOutputConverter.supports(void.class)).isFalse();
+        assertThat(ScalarOutputConverter.supports(String.class)).isFalse();
+        assertThat(ScalarOutputConverter.supports(java.util.concurrent.atomic.AtomicInteger.class)).isFalse();
+        assertThatThrownBy(() -> new ScalarOutputConverter(List.class))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void formatListsEnumConstants() {
+        assertThat(new ScalarOutputConverter(Sentiment.class).getFormat())
+            .startsWith("Answer with exactly one of: POSITIVE, NEGATIVE, NEUTRAL, VERY_NEUTRAL.");
+        assertThat(new ScalarOutputConverter(boolean.class).getFormat())
+            .startsWith("Answer with exactly one of: true, false.");
+        assertThat(new ScalarOutputConverter(long.class).getFormat()).contains("integer");
+        assertThat(new ScalarOutputConverter(double.class).getFormat()).doesNotContain("integer");
+    }
+
+    @Test
+    void enumIgnoresCaseSeparatorsAndMarkup() {
+        assertThat(convert(Sentiment.class, " **Negative**.\n")).isEqualTo(Sentiment.NEGATIVE);
+        assertThat(convert(Sentiment.class, "very neutral")).isEqualTo(Sentiment.VERY_NEUTRAL);
+        assertThat(convert(Sentiment.class, "\"very-neutral\"")).isEqualTo(Sentiment.VERY_NEUTRAL);
+        assertThat(convert(Sentiment.class, "```\nPOSITIVE\n```")).isEqualTo(Sentiment.POSITIVE);
+    }
+
+    @Test
+    void enumFallsBackToLeadingConstant() {
+        assertThat(convert(Sentiment.class, "NEGATIVE, definitely not POSITIVE")).isEqualTo(Sentiment.NEGATIVE);
+        assertThat(convert(Sentiment.class, "Very neutral, with a slight lean.")).isEqualTo(Sentiment.VERY_NEUTRAL);
+        assertThat(convert(Sentiment.class, "Neutral overall")).isEqualTo(Sentiment.NEUTRAL);
+    }
+
+    @Test
+    void enumRejectsAnswersNotStartingWithConstant() {
+        assertThatThrownBy(() -> convert(Sentiment.class, "It is not positive."))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(Sentiment.class, "POSITIVELY"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(Sentiment.class, ""))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void booleanStripsMarkupAndPunctuationInAnyOrder() {
+        assertThat(convert(boolean.class, "**Yes**.")).isEqualTo(true);
+        assertThat(convert(boolean.class, "\"false\".")).isEqualTo(false);
+        assertThat(convert(Boolean.class, "`TRUE`")).isEqualTo(true);
+        assertThat(convert(boolean.class, "_no_!")).isEqualTo(false);
+    }
+
+    @Test
+    void booleanHandlesCodeFencesWithLanguageTag() {
+        assertThat(convert(boolean.class, "```json\ntrue\n```")).isEqualTo(true);
+        assertThat(convert(boolean.class, "```false```")).isEqualTo(false);
+    }
+
+    @Test
+    void booleanFallsBackToLeadingToken() {
+        assertThat(convert(boolean.class, "Yes, 13 is prime.")).isEqualTo(true);
+        assertThat(convert(boolean.class, "No - it is divisible by 3.")).isEqualTo(false);
+        assertThatThrownBy(() -> convert(boolean.class, "N/A"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(boolean.class, "Maybe"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void integersHandleSeparatorsAndTrailingText() {
+        assertThat(convert(int.class, "`1,234`")).isEqualTo(1234);
+        assertThat(convert(Long.class, "1,234,567 people.")).isEqualTo(1234567L);
+        assertThat(convert(int.class, "7 out of 10")).isEqualTo(7);
+        assertThat(convert(int.class, "-42.")).isEqualTo(-42);
+        assertThat(convert(short.class, "7")).isEqualTo((short) 7);
+        assertThat(convert(BigInteger.class, "123456789012345678901234567890"))
+            .isEqualTo(new BigInteger("123456789012345678901234567890"));
+    }
+
+    @Test
+    void integersRejectNumbersNotLeadingTheAnswer() {
+        assertThatThrownBy(() -> convert(int.class, "Out of 10, I'd give it 7"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(int.class, "between 3 and 5"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(Long.class, "About 1,234,567 people."))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void integersRejectFractionsInsteadOfTruncating() {
+        assertThatThrownBy(() -> convert(int.class, "3.7"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(int.class, "1e3"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(int.class, "1.000"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(BigInteger.class, "2.5"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void integersRejectOverflowAndMissingNumbers() {
+        assertThatThrownBy(() -> convert(int.class, "99999999999"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(byte.class, "300"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(int.class, "none"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(int.class, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decimalsParseLeadingNumber() {
+        assertThat(convert(double.class, "3.14, roughly.")).isEqualTo(3.14);
+        assertThat(convert(float.class, "```\n0.5\n```")).isEqualTo(0.5f);
+        assertThat(convert(BigDecimal.class, "-2.5e3")).isEqualTo(new BigDecimal("-2.5e3"));
+        assertThat(convert(Double.class, "1,000.25")).isEqualTo(1000.25);
+        assertThat(convert(double.class, "1e3")).isEqualTo(1000.0);
+    }
+
+    @Test
+    void decimalsRejectAmbiguousAnswers() {
+        assertThatThrownBy(() -> convert(double.class, "Approximately 3.14."))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(double.class, "1,5"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(double.class, "1.2.3"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void characterRequiresExactlyOneCharacter() {
+        assertThat(convert(char.class, "'B'")).isEqualTo('B');
+        assertThat(convert(Character.class, "**x**.")).isEqualTo('x');
+        assertThatThrownBy(() -> convert(char.class, "Answer: B"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(char.class, "AB"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(char.class, "\uD83D\uDE00"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(char.class, "  "))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -5,6 +5,8 @@ import com.krkarma777.springaimapper.annotation.Param;
 import com.krkarma777.springaimapper.annotation.SystemMessage;
 import com.krkarma777.springaimapper.annotation.UserMessage;
 
+import java.time.Duration;
+
 @LlmClient(model = "gpt-4o-mini") // Cost-effective model
 @SystemMessage("You are a helpful database assistant. You strictly answer in JSON format when requested.")
 public interface GreetingService {
@@ -21,6 +23,26 @@ public interface GreetingService {
      */
     @UserMessage("Extract information about the movie actor '{actorName}'.")
     ActorInfo getActorInfo(@Param("actorName") String actorName);
+
+    /**
+     * Per-call deadline test.
+     * The Duration argument bounds the call and is not bound to the prompt template.
+     */
+    @UserMessage("Write a long essay about {topic}.")
+    String writeEssay(@Param("topic") String topic, Duration timeout);
+
+    /**
+     * Enum (classification) test.
+     * The library appends a one-line "answer with one of" instruction instead of a JSON schema.
+     */
+    @UserMessage(value = "Classify the sentiment of this review: '{review}'.", maxTokens = 5)
+    Sentiment classifySentiment(@Param("review") String review);
+
+    /**
+     * Primitive boolean return test.
+     */
+    @UserMessage(value = "Is {number} a prime number?", maxTokens = 3)
+    boolean isPrime(@Param("number") int number);
 }
 
 /**
@@ -28,3 +50,8 @@ public interface GreetingService {
  */
 record ActorInfo(String name, String mostFamousMovie, int age) {}
 
+/**
+ * Test enum for classification.
+ */
+enum Sentiment { POSITIVE, NEGATIVE, NEUTRAL }
+
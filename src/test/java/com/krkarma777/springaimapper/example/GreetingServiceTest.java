@@ -1,10 +1,14 @@
 package com.krkarma777.springaimapper.example;
 
+import com.krkarma777.springaimapper.exception.LlmCallTimeoutException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 // Note: In actual testing, OPENAI_API_KEY must be provided as an environment variable
@@ -57,5 +61,35 @@ public class GreetingServiceTest {
         assertThat(actor.mostFamousMovie()).isNotEmpty();
         assertThat(actor.age()).isGreaterThan(50); // Tom is older than 50
     }
-}
 
+    @Test
+    public void testDeadlineCancelsCall() {
+        if (!isApiKeySet() || greetingService == null) {
+            System.out.println("⚠️ Skipped: OpenAI API Key not found.");
+            return;
+        }
+
+        System.out.println("🚀 Testing Deadline Cancellation...");
+
+        // Execute: A long answer cannot finish within 1ms, so the call must be aborted
+        assertThatThrownBy(() -> greetingService.writeEssay("the history of cinema", Duration.ofMillis(1)))
+            .isInstanceOf(LlmCallTimeoutException.class);
+    }
+
+    @Test
+    public void testScalarMapping() {
+        if (!isApiKeySet() || greetingService == null) {
+            System.out.println("⚠️ Skipped: OpenAI API Key not found.");
+            return;
+        }
+
+        System.out.println("🚀 Testing Scalar Mapping (Enum & boolean)...");
+
+        Sentiment sentiment = greetingService.classifySentiment("Absolutely loved it, best movie of the year!");
+        boolean prime = greetingService.isPrime(13);
+
+        System.out.println("Result: " + sentiment + ", " + prime);
+        assertThat(sentiment).isEqualTo(Sentiment.POSITIVE);
+        assertThat(prime).isTrue();
+    }
+}
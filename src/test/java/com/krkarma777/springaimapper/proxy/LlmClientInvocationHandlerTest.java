@@ -0,0 +1,329 @@
+package com.krkarma777.springaimapper.proxy;
+
+import com.krkarma777.springaimapper.annotation.Param;
+import com.krkarma777.springaimapper.annotation.Timeout;
+import com.krkarma777.springaimapper.annotation.UserMessage;
+import com.krkarma777.springaimapper.exception.LlmCallCancelledException;
+import com.krkarma777.springaimapper.exception.LlmCallTimeoutException;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deadline, cancellation and scalar output tests for {@link LlmClientInvocationHandler},
+ * using a stubbed {@link ChatClient}.
+ */
+class LlmClientInvocationHandlerTest {
+
+    enum Sentiment { POSITIVE, NEGATIVE }
+
+    interface TestClient {
+
+        @UserMessage("Say {word}.")
+        @Timeout(100)
+        String withAnnotatedTimeout(@Param("word") String word);
+
+        @UserMessage("Say {word}.")
+        String withDuration(@Param("word") String word, Duration timeout);
+
+        @UserMessage("Say {word}.")
+        String withInstant(@Param("word") String word, Instant deadline);
+
+        @UserMessage("Say {value}.")
+        String withObject(@Param("value") Object value);
+
+        @UserMessage("Summarize the last {window}.")
+        String withParamDuration(@Param("window") Duration window);
+
+        @UserMessage("Classify {text}.")
+        Sentiment classify(@Param("text") String text);
+
+        @UserMessage(value = "Is {text} positive?", maxTokens = 5)
+        boolean isPositive(@Param("text") String text);
+
+        @UserMessage("Rate {text} from 1 to 10.")
+        int rate(@Param("text") String text);
+    }
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch workerInterrupted = new CountDownLatch(1);
+    private final AtomicReference<Thread> callingThread = new AtomicReference<>();
+
+    private ChatClient chatClient;
+    private MeterRegistry meterRegistry;
+    private LlmClientInvocationHandler handler;
+    private TestClient client;
+
+    @BeforeEach
+    void setUp() {
+        chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new LlmClientInvocationHandler(chatClient, TestClient.class, "", meterRegistry);
+        client = createClient(handler);
+    }
+
+    private static TestClient createClient(LlmClientInvocationHandler handler) {
+        return (TestClient) Proxy.newProxyInstance(
+            TestClient.class.getClassLoader(), new Class<?>[]{TestClient.class}, handler);
+    }
+
+    private Prompt capturePrompt() {
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatClient, atLeastOnce()).prompt(prompt.capture());
+        return prompt.getValue();
+    }
+
+    /**
+     * Stubs the LLM call to block until interrupted, recording the thread it runs on.
+     */
+    private void stubBlockingCall() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenAnswer(invocation -> {
+            callingThread.set(Thread.currentThread());
+            started.countDown();
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                workerInterrupted.countDown();
+                throw new IllegalStateException("Request was interrupted", e);
+            }
+            return "unreachable";
+        });
+    }
+
+    private void stubImmediateCall() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenAnswer(invocation -> {
+            callingThread.set(Thread.currentThread());
+            return "hello";
+        });
+    }
+
+    private double cancelledCount(String method, String reason) {
+        var counter = meterRegistry.find(LlmClientInvocationHandler.CANCELLED_CALLS_METRIC)
+            .tag("interface", TestClient.class.getName())
+            .tag("method", method)
+            .tag("reason", reason)
+            .counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void timeoutInterruptsWorkerAndCountsCancellation() throws InterruptedException {
+        stubBlockingCall();
+
+        assertThatThrownBy(() -> client.withAnnotatedTimeout("hi"))
+            .isInstanceOfSatisfying(LlmCallTimeoutException.class,
+                e -> assertThat(e.getTimeout()).isEqualTo(Duration.ofMillis(100)));
+
+        assertThat(workerInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(callingThread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(handler.getCancelledCallCount()).isEqualTo(1);
+        assertThat(cancelledCount("withAnnotatedTimeout", "timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void durationArgumentBoundsCall() {
+        stubBlockingCall();
+
+        assertThatThrownBy(() -> client.withDuration("hi", Duration.ofMillis(100)))
+            .isInstanceOfSatisfying(LlmCallTimeoutException.class,
+                e -> assertThat(e.getTimeout()).isEqualTo(Duration.ofMillis(100)));
+        assertThat(cancelledCount("withDuration", "timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void passedDeadlineFailsWithoutCallingLlm() {
+        stubBlockingCall();
+
+        assertThatThrownBy(() -> client.withInstant("hi", Instant.now().minusSeconds(1)))
+            .isInstanceOf(LlmCallTimeoutException.class);
+        assertThat(started.getCount()).isEqualTo(1);
+        assertThat(cancelledCount("withInstant", "timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void callerInterruptCancelsWorker() throws InterruptedException {
+        stubBlockingCall();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicReference<Boolean> interruptPreserved = new AtomicReference<>();
+
+        Thread caller = new Thread(() -> {
+            try {
+                client.withDuration("hi", Duration.ofMinutes(1));
+            } catch (Throwable e) {
+                thrown.set(e);
+                interruptPreserved.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.interrupt();
+        caller.join(5000);
+
+        assertThat(thrown.get()).isInstanceOf(LlmCallCancelledException.class);
+        assertThat(interruptPreserved.get()).isTrue();
+        assertThat(workerInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handler.getCancelledCallCount()).isEqualTo(1);
+        assertThat(cancelledCount("withDuration", "interrupted")).isEqualTo(1);
+    }
+
+    @Test
+    void callerInterruptWithoutDeadlineIsCounted() throws InterruptedException {
+        stubBlockingCall();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicReference<Boolean> interruptPreserved = new AtomicReference<>();
+
+        Thread caller = new Thread(() -> {
+            try {
+                client.withDuration("hi", null);
+            } catch (Throwable e) {
+                thrown.set(e);
+                interruptPreserved.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.interrupt();
+        caller.join(5000);
+
+        assertThat(callingThread.get()).isSameAs(caller);
+        assertThat(thrown.get()).isInstanceOf(LlmCallCancelledException.class);
+        assertThat(interruptPreserved.get()).isTrue();
+        assertThat(cancelledCount("withDuration", "interrupted")).isEqualTo(1);
+    }
+
+    @Test
+    void unrelatedFailureWithInterruptFlagSetIsNotCancellation() {
+        when(chatClient.prompt(any(Prompt.class)).call().content())
+            .thenThrow(new IllegalStateException("boom"));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> client.withDuration("hi", null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(handler.getCancelledCallCount()).isZero();
+    }
+
+    @Test
+    void paramAnnotatedDurationIsTemplateVariable() {
+        stubImmediateCall();
+
+        assertThat(client.withParamDuration(Duration.ofMillis(1))).isEqualTo("hello");
+
+        assertThat(capturePrompt().getContents()).contains("Summarize the last PT0.001S.");
+        assertThat(callingThread.get()).isSameAs(Thread.currentThread());
+        assertThat(handler.getCancelledCallCount()).isZero();
+    }
+
+    @Test
+    void callWithoutDeadlineRunsOnCallingThread() {
+        stubImmediateCall();
+
+        assertThat(client.withDuration("hi", null)).isEqualTo("hello");
+        assertThat(callingThread.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void hugeDeadlinesAreTreatedAsNoLimit() {
+        stubImmediateCall();
+
+        assertThat(client.withDuration("hi", ChronoUnit.FOREVER.getDuration())).isEqualTo("hello");
+        assertThat(client.withInstant("hi", Instant.MAX)).isEqualTo("hello");
+        assertThat(callingThread.get()).isSameAs(Thread.currentThread());
+        assertThat(handler.getCancelledCallCount()).isZero();
+    }
+
+    @Test
+    void durationInObjectParameterIsTemplateVariable() {
+        stubImmediateCall();
+
+        assertThat(client.withObject(Duration.ofSeconds(1))).isEqualTo("hello");
+
+        assertThat(capturePrompt().getContents()).contains("Say PT1S.");
+        assertThat(callingThread.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void offloadedCallPropagatesCallerContext() {
+        ThreadLocal<String> context = new ThreadLocal<>();
+        String key = "llm-client-test-context";
+        ContextRegistry.getInstance().registerThreadLocalAccessor(key, context);
+        AtomicReference<String> seen = new AtomicReference<>();
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenAnswer(invocation -> {
+            seen.set(context.get());
+            return "hello";
+        });
+
+        try {
+            context.set("trace-123");
+            assertThat(client.withDuration("hi", Duration.ofMinutes(1))).isEqualTo("hello");
+            assertThat(seen.get()).isEqualTo("trace-123");
+        } finally {
+            context.remove();
+            ContextRegistry.getInstance().removeThreadLocalAccessor(key);
+        }
+    }
+
+    @Test
+    void enumReturnUsesOneLineInstructionInsteadOfSchema() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("**Negative**.");
+
+        assertThat(client.classify("a bad movie")).isEqualTo(Sentiment.NEGATIVE);
+
+        Prompt prompt = capturePrompt();
+        assertThat(prompt.getContents())
+            .endsWith("Answer with exactly one of: POSITIVE, NEGATIVE. Do not include any other text.")
+            .doesNotContain("$schema");
+        assertThat(prompt.getOptions() == null || prompt.getOptions().getMaxTokens() == null).isTrue();
+    }
+
+    @Test
+    void primitiveReturnIsConverted() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("7");
+
+        assertThat(client.rate("a fine movie")).isEqualTo(7);
+        assertThat(capturePrompt().getContents())
+            .endsWith("Answer with a single integer number only. Do not include any other text.");
+    }
+
+    @Test
+    void maxTokensSetsPromptOptionsCarryingClientModel() {
+        TestClient modelClient = createClient(
+            new LlmClientInvocationHandler(chatClient, TestClient.class, "gpt-test", meterRegistry));
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("Yes.");
+
+        assertThat(modelClient.isPositive("a great movie")).isTrue();
+
+        Prompt prompt = capturePrompt();
+        assertThat(prompt.getContents())
+            .endsWith("Answer with exactly one of: true, false. Do not include any other text.");
+        assertThat(prompt.getOptions()).isNotNull();
+        assertThat(prompt.getOptions().getMaxTokens()).isEqualTo(5);
+        assertThat(prompt.getOptions().getModel()).isEqualTo("gpt-test");
+    }
+}